@@ -0,0 +1,307 @@
+package analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import engine.Move;
+import engine.Search;
+import engine.TranspositionTable;
+import engine.Zobrist;
+import main.ChessBoard;
+import main.ChessGame;
+
+/**
+ * Analyzes every position of a game archive with a fixed-depth search.
+ * <p>
+ * The archive holds one game per line as moves in long algebraic notation (e.g., "e2e4 e7e5 g1f3");
+ * blank lines and lines starting with {@code #} are skipped. Positions are deduplicated by hash through an
+ * {@link EvaluationCache}, so positions shared between games (openings especially) are only searched once.
+ * Searches run on a work-stealing pool, and results are written in game order, one batch of games at a time.
+ * Every search starts from an empty transposition table, so a result depends only on the position and the depth,
+ * not on which searches happened to run before it.
+ * After each batch a checkpoint is saved next to the output, so an interrupted run resumes where it stopped.
+ */
+public class BatchAnalyzer {
+
+    /** Number of games read, searched and written together. */
+    private static final int GAMES_PER_BATCH = 64;
+
+    /**
+     * A position reached in a game, together with the move that was played from it.
+     */
+    private static final class Position {
+
+        /** The index of the game in the archive. */
+        final long game;
+
+        /** The number of moves made before this position. */
+        final int ply;
+
+        /** The move played from this position. */
+        final Move played;
+
+        /** A copy of the board in this position. */
+        final ChessBoard board;
+
+        /** Whether it's white's turn to play. */
+        final boolean whiteTurn;
+
+        /** The hash of the position. */
+        final long key;
+
+        Position(long game, int ply, Move played, ChessBoard board, boolean whiteTurn) {
+            this.game = game;
+            this.ply = ply;
+            this.played = played;
+            this.board = board;
+            this.whiteTurn = whiteTurn;
+            this.key = Zobrist.hash(board.getPieces(), whiteTurn);
+        }
+    }
+
+    /** The depth every position is searched to. */
+    private final int depth;
+
+    /** The pool running the searches. */
+    private final ForkJoinPool pool;
+
+    /** Results of positions searched so far. */
+    private final EvaluationCache cache;
+
+    /** Transposition table of each search thread, cleared before every search. */
+    private final ThreadLocal<TranspositionTable> tables;
+
+    /** Number of positions analyzed. */
+    private long positions;
+
+    /** Number of searches run. */
+    private long searches;
+
+    /**
+     * Constructs a new BatchAnalyzer.
+     *
+     * @param depth         The depth every position is searched to.
+     * @param threads       The number of search threads.
+     * @param cacheCapacity The maximum number of evaluations kept in the cache.
+     * @param hashMegabytes The size of the transposition table of each search thread, in megabytes.
+     */
+    public BatchAnalyzer(int depth, int threads, int cacheCapacity, int hashMegabytes) {
+        this.depth = depth;
+        this.pool = new ForkJoinPool(threads);
+        this.cache = new EvaluationCache(cacheCapacity);
+        this.tables = ThreadLocal.withInitial(() -> new TranspositionTable(hashMegabytes));
+    }
+
+    /**
+     * Entry point of the batch analysis.
+     *
+     * @param args The games file, the output file, and optionally the depth, thread count and cache capacity.
+     * @throws IOException if the games, output or checkpoint file can't be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchAnalyzer <games> <output> [depth=4] [threads=cores] [cache=1000000]");
+            System.exit(2);
+        }
+
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int cacheCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 1000000;
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(depth, threads, cacheCapacity, 4);
+        analyzer.analyze(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * Analyzes all games of the archive, resuming from the checkpoint of a previous run if there is one.
+     *
+     * @param games  The game archive.
+     * @param output The file the annotated positions are written to.
+     * @throws IOException if the games, output or checkpoint file can't be read or written, or if the checkpoint was
+     *                     written with a different depth.
+     */
+    public void analyze(Path games, Path output) throws IOException {
+        Path checkpoint = output.resolveSibling(output.getFileName() + ".checkpoint");
+        long gamesDone = 0;
+
+        if (Files.exists(checkpoint) && Files.exists(output)) {
+            // Drop anything written after the last checkpoint, it is written again below
+            Properties saved = new Properties();
+            try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+                saved.load(reader);
+            }
+            if (!Integer.toString(depth).equals(saved.getProperty("depth"))) {
+                throw new IOException("Checkpoint " + checkpoint + " was written with depth "
+                        + saved.getProperty("depth") + ", not " + depth + "; refusing to mix depths in " + output);
+            }
+            gamesDone = Long.parseLong(saved.getProperty("games"));
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+                channel.truncate(Long.parseLong(saved.getProperty("bytes")));
+            }
+            System.err.println("Resuming after " + gamesDone + " games");
+        } else {
+            Files.write(output, "game\tply\tmove\tdepth\tscore\tbestmove\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(games, StandardCharsets.UTF_8);
+                BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                        StandardOpenOption.APPEND)) {
+            long game = 0;
+            List<Position> batch = new ArrayList<>();
+            int batchGames = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                // Skip games that were completed by a previous run
+                if (game++ < gamesDone) {
+                    continue;
+                }
+
+                batch.addAll(replay(game - 1, line));
+                if (++batchGames == GAMES_PER_BATCH) {
+                    writeBatch(batch, writer);
+                    gamesDone += batchGames;
+                    saveCheckpoint(checkpoint, gamesDone, output);
+                    batch.clear();
+                    batchGames = 0;
+                }
+            }
+
+            writeBatch(batch, writer);
+            gamesDone += batchGames;
+            saveCheckpoint(checkpoint, gamesDone, output);
+        } finally {
+            pool.shutdown();
+        }
+
+        System.err.println("Analyzed " + positions + " positions from " + gamesDone + " games with " + searches
+                + " searches (" + cache.getHits() + " cache hits)");
+    }
+
+    /**
+     * Replays a game and collects the position before every move.
+     *
+     * @param game  The index of the game in the archive.
+     * @param moves The moves of the game.
+     * @return The positions of the game, in order.
+     */
+    private List<Position> replay(long game, String moves) {
+        List<Position> result = new ArrayList<>();
+        ChessGame chessGame = new ChessGame();
+        int ply = 0;
+
+        for (String text : moves.split("\\s+")) {
+            Move move = Move.fromUci(text);
+            if (chessGame.isFinished()) {
+                break;
+            }
+
+            // Keep the positions up to the first move the game rejects
+            ChessBoard before = new ChessBoard(chessGame.getBoard());
+            boolean whiteTurn = chessGame.isWhiteTurn();
+            if (move == null || !chessGame.movePiece(move.fromX, move.fromY, move.toX, move.toY)) {
+                System.err.println("Game " + game + ": illegal move " + text + " at ply " + ply + ", skipping rest");
+                break;
+            }
+            result.add(new Position(game, ply++, move, before, whiteTurn));
+        }
+        return result;
+    }
+
+    /**
+     * Searches the positions of a batch and writes the annotated results in order.
+     * Each distinct position is searched at most once; later occurrences reuse the cached result.
+     *
+     * @param batch  The positions to analyze.
+     * @param writer The output.
+     * @throws IOException if the output can't be written.
+     */
+    private void writeBatch(List<Position> batch, Writer writer) throws IOException {
+        Map<Long, Search.Result> known = new HashMap<>();
+        Map<Long, ForkJoinTask<Search.Result>> pending = new HashMap<>();
+
+        // Fan out a search for every position that is neither cached nor already submitted
+        for (Position position : batch) {
+            if (known.containsKey(position.key) || pending.containsKey(position.key)) {
+                continue;
+            }
+            Search.Result cached = cache.get(position.key);
+            if (cached != null) {
+                known.put(position.key, cached);
+            } else {
+                pending.put(position.key, pool.submit(() -> search(position)));
+                searches++;
+            }
+        }
+
+        // Collect the results in game order
+        for (Position position : batch) {
+            Search.Result result = known.get(position.key);
+            if (result == null) {
+                result = pending.get(position.key).join();
+                known.put(position.key, result);
+                cache.put(position.key, result);
+            }
+
+            writer.write(position.game + "\t" + position.ply + "\t" + position.played.toUci() + "\t" + result.depth
+                    + "\t" + result.score + "\t" + (result.bestMove != null ? result.bestMove.toUci() : "-") + "\n");
+            positions++;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Searches a position to the fixed depth, starting from an empty transposition table.
+     *
+     * @param position The position to search.
+     * @return The result of the search.
+     */
+    private Search.Result search(Position position) {
+        TranspositionTable table = tables.get();
+        table.clear(); // Results must not depend on earlier searches
+        return new Search(table).search(position.board, position.whiteTurn, depth, null);
+    }
+
+    /**
+     * Records the search depth and how many games have been written, replacing the checkpoint file atomically.
+     *
+     * @param checkpoint The checkpoint file.
+     * @param gamesDone  The number of games written.
+     * @param output     The output file.
+     * @throws IOException if the checkpoint can't be written.
+     */
+    private void saveCheckpoint(Path checkpoint, long gamesDone, Path output) throws IOException {
+        Properties saved = new Properties();
+        saved.setProperty("depth", Integer.toString(depth));
+        saved.setProperty("games", Long.toString(gamesDone));
+        saved.setProperty("bytes", Long.toString(Files.size(output)));
+
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            saved.store(writer, "Batch analysis progress");
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,114 @@
+package analysis;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import engine.Search;
+
+/**
+ * Bounded cache of search results keyed by position hash, evicting with the CLOCK (second chance) policy.
+ * Recently used entries get a second chance before being replaced, which approximates LRU without reordering
+ * on every hit.
+ */
+public class EvaluationCache {
+
+    /** The hashes stored in each slot. */
+    private final long[] keys;
+
+    /** The results stored in each slot, or {@code null} for an empty slot. */
+    private final Search.Result[] values;
+
+    /** Whether each slot has been used since the clock hand last passed it. */
+    private final boolean[] referenced;
+
+    /** Maps a hash to the slot holding it. */
+    private final Map<Long, Integer> slots;
+
+    /** The next slot considered for eviction. */
+    private int hand;
+
+    /** Number of successful lookups. */
+    private long hits;
+
+    /** Number of failed lookups. */
+    private long misses;
+
+    /**
+     * Constructs a new EvaluationCache.
+     *
+     * @param capacity The maximum number of results kept.
+     */
+    public EvaluationCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        keys = new long[capacity];
+        values = new Search.Result[capacity];
+        referenced = new boolean[capacity];
+        slots = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Looks up the result for a position.
+     *
+     * @param key The hash of the position.
+     * @return The cached result, or {@code null} if the position is not cached.
+     */
+    public synchronized Search.Result get(long key) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        referenced[slot] = true; // Give the entry a second chance
+        return values[slot];
+    }
+
+    /**
+     * Stores the result for a position, evicting an old entry if the cache is full.
+     *
+     * @param key    The hash of the position.
+     * @param result The result to store.
+     */
+    public synchronized void put(long key, Search.Result result) {
+        Integer existing = slots.get(key);
+        if (existing != null) {
+            values[existing] = result;
+            referenced[existing] = true;
+            return;
+        }
+
+        // Advance the hand past recently used entries, clearing their flag
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % keys.length;
+        }
+
+        if (values[hand] != null) {
+            slots.remove(keys[hand]); // Evict the old entry
+        }
+        keys[hand] = key;
+        values[hand] = result;
+        slots.put(key, hand);
+        hand = (hand + 1) % keys.length;
+    }
+
+    /**
+     * Returns the number of successful lookups.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of failed lookups.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,96 @@
+package engine;
+
+/**
+ * Validates one move on each board of a {@link BoardBatch}, with the same rules as
+ * {@link main.ChessGame#movePiece}: the piece must belong to the side to move and
+ * {@link pieces.ChessPiece#isValidMove} must accept the move.
+ * <p>
+ * Instead of dispatching to a piece class per move, every rule is computed for every move with non-short-circuit
+ * boolean operators, and the one matching the piece type is selected. The loop body has no data-dependent branches,
+ * so mixed batches of pawns, knights, rooks and so on don't cause branch mispredictions.
+ */
+public final class BatchMoveValidator {
+
+    private BatchMoveValidator() {
+    }
+
+    /**
+     * Validates move {@code i} on board {@code i} for every board of the batch.
+     *
+     * @param batch The boards.
+     * @param from  The starting square of each move, see {@link BoardBatch#square}. Squares outside 0 to 63 are
+     *              off the board, and the move is reported as invalid.
+     * @param to    The target square of each move, see {@link BoardBatch#square}. Squares outside 0 to 63 are
+     *              off the board, and the move is reported as invalid.
+     * @return A bitmap where bit {@code i % 64} of word {@code i / 64} is set if move {@code i} is valid.
+     */
+    public static long[] validate(BoardBatch batch, int[] from, int[] to) {
+        int size = batch.size();
+        if (from.length != size || to.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " moves, got " + from.length + " and " + to.length);
+        }
+
+        byte[] squares = batch.squares;
+        boolean[] whiteTurn = batch.whiteTurn;
+        long[] result = new long[(size + 63) / 64];
+
+        for (int i = 0; i < size; i++) {
+            int base = i * 64;
+
+            // Off-board squares are wrapped only to keep the reads in bounds, the move is rejected below
+            boolean inRange = ((from[i] | to[i]) & ~63) == 0;
+            int fromSquare = from[i] & 63;
+            int toSquare = to[i] & 63;
+
+            int piece = squares[base + fromSquare];
+            int target = squares[base + toSquare];
+            int type = piece & BoardBatch.TYPE_MASK;
+            boolean black = (piece & BoardBatch.BLACK) != 0;
+
+            int dx = (toSquare >> 3) - (fromSquare >> 3);
+            int dy = (toSquare & 7) - (fromSquare & 7);
+            int adx = Math.abs(dx);
+            int ady = Math.abs(dy);
+
+            // The piece must exist and belong to the side to move
+            boolean own = (piece != 0) & (black != whiteTurn[i]);
+            boolean targetEmpty = target == 0;
+            boolean targetEnemy = (target != 0) & (((target & BoardBatch.BLACK) != 0) != black);
+            boolean destinationOk = targetEmpty | targetEnemy;
+
+            // Sliding pieces: walk the squares between start and target, at most six of them
+            boolean straight = (dx == 0) | (dy == 0);
+            boolean diagonal = adx == ady;
+            int distance = Math.max(adx, ady);
+            int step = (straight | diagonal) ? Integer.signum(dx) * 8 + Integer.signum(dy) : 0;
+            boolean blocked = false;
+            for (int k = 1; k < 7; k++) {
+                int between = fromSquare + Math.min(k, distance) * step; // Stays on the target once past it
+                blocked |= (k < distance) & (squares[base + between] != 0);
+            }
+            boolean rook = straight & !blocked & destinationOk;
+            boolean bishop = diagonal & !blocked & destinationOk;
+
+            boolean knight = (adx * ady == 2) & destinationOk;
+            boolean king = (adx <= 1) & (ady <= 1) & destinationOk;
+
+            // Pawns: forward to an empty square, two squares on the first move, or capture diagonally
+            int direction = black ? -1 : 1;
+            boolean firstMove = (piece & BoardBatch.FIRST_MOVE) != 0;
+            boolean middleEmpty = squares[base + ((fromSquare + direction) & 63)] == 0;
+            boolean pawn = ((dx == 0) & (dy == direction) & targetEmpty)
+                    | ((dx == 0) & (dy == 2 * direction) & firstMove & targetEmpty & middleEmpty)
+                    | ((adx == 1) & (dy == direction) & targetEnemy);
+
+            boolean valid = inRange & own & (((type == BoardBatch.PAWN) & pawn)
+                    | ((type == BoardBatch.KNIGHT) & knight)
+                    | ((type == BoardBatch.BISHOP) & bishop)
+                    | ((type == BoardBatch.ROOK) & rook)
+                    | ((type == BoardBatch.QUEEN) & (rook | bishop))
+                    | ((type == BoardBatch.KING) & king));
+
+            result[i >>> 6] |= (valid ? 1L : 0L) << i;
+        }
+        return result;
+    }
+}
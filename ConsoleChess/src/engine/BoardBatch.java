@@ -0,0 +1,149 @@
+package engine;
+
+import java.util.Arrays;
+
+import main.ChessBoard;
+import pieces.Bishop;
+import pieces.ChessPiece;
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Queen;
+
+/**
+ * Many independent positions packed into flat arrays (structure of arrays), for {@link BatchMoveValidator}.
+ * Each board takes 64 consecutive bytes of {@link #squares}; square {@code x * 8 + y} holds the code of the piece on
+ * {@code board[x][y]}, or {@code 0} when empty.
+ */
+public class BoardBatch {
+
+    /** Piece type code of a pawn. */
+    public static final int PAWN = 1;
+
+    /** Piece type code of a knight. */
+    public static final int KNIGHT = 2;
+
+    /** Piece type code of a bishop. */
+    public static final int BISHOP = 3;
+
+    /** Piece type code of a rook. */
+    public static final int ROOK = 4;
+
+    /** Piece type code of a queen. */
+    public static final int QUEEN = 5;
+
+    /** Piece type code of a king. */
+    public static final int KING = 6;
+
+    /** Mask of the piece type in a piece code. */
+    public static final int TYPE_MASK = 7;
+
+    /** Set in a piece code for black pieces. */
+    public static final int BLACK = 8;
+
+    /** Set in a piece code for pawns that may still advance two squares. */
+    public static final int FIRST_MOVE = 16;
+
+    /** Piece codes of all boards, 64 per board. */
+    final byte[] squares;
+
+    /** Whether it's white's turn to play on each board. */
+    final boolean[] whiteTurn;
+
+    /**
+     * Constructs a new BoardBatch of empty boards with white to move.
+     *
+     * @param size The number of boards.
+     */
+    public BoardBatch(int size) {
+        squares = new byte[size * 64];
+        whiteTurn = new boolean[size];
+        Arrays.fill(whiteTurn, true);
+    }
+
+    /**
+     * Returns the number of boards in the batch.
+     *
+     * @return The number of boards.
+     */
+    public int size() {
+        return whiteTurn.length;
+    }
+
+    /**
+     * Returns the square index of a coordinate, as used by the batch and by move arrays.
+     *
+     * @param x The x-coordinate (column).
+     * @param y The y-coordinate (row).
+     * @return The square index, from 0 to 63.
+     */
+    public static int square(int x, int y) {
+        return x * 8 + y;
+    }
+
+    /**
+     * Packs a chessboard into the batch.
+     *
+     * @param index     The index of the board in the batch.
+     * @param board     The chessboard to pack.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     */
+    public void set(int index, ChessBoard board, boolean whiteTurn) {
+        ChessPiece[][] pieces = board.getPieces();
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                squares[index * 64 + square(x, y)] = (byte) pieceCode(pieces[x][y]);
+            }
+        }
+        this.whiteTurn[index] = whiteTurn;
+    }
+
+    /**
+     * Sets the piece code of a single square.
+     *
+     * @param index  The index of the board in the batch.
+     * @param square The square index.
+     * @param code   The piece code, or {@code 0} for an empty square.
+     */
+    public void setSquare(int index, int square, int code) {
+        squares[index * 64 + square] = (byte) code;
+    }
+
+    /**
+     * Sets whose turn it is on a board.
+     *
+     * @param index     The index of the board in the batch.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     */
+    public void setWhiteTurn(int index, boolean whiteTurn) {
+        this.whiteTurn[index] = whiteTurn;
+    }
+
+    /**
+     * Returns the code of a piece.
+     *
+     * @param piece The piece, or {@code null}.
+     * @return The piece code, or {@code 0} if {@code piece} is {@code null}.
+     */
+    public static int pieceCode(ChessPiece piece) {
+        if (piece == null) {
+            return 0;
+        }
+
+        int code;
+        if (piece instanceof Pawn) {
+            code = ((Pawn) piece).isFirstMove() ? PAWN | FIRST_MOVE : PAWN;
+        } else if (piece instanceof Knight) {
+            code = KNIGHT;
+        } else if (piece instanceof Bishop) {
+            code = BISHOP;
+        } else if (piece instanceof Queen) {
+            code = QUEEN;
+        } else if (piece instanceof King) {
+            code = KING;
+        } else {
+            code = ROOK;
+        }
+        return piece.isWhite() ? code : code | BLACK;
+    }
+}
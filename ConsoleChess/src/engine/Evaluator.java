@@ -0,0 +1,75 @@
+package engine;
+
+import pieces.Bishop;
+import pieces.ChessPiece;
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Queen;
+
+/**
+ * Static evaluation of a chessboard, based on material and a small bonus for central pieces.
+ */
+public final class Evaluator {
+
+    /** The value of a king. Large enough that losing the king outweighs any material. */
+    public static final int KING_VALUE = 20000;
+
+    private Evaluator() {
+    }
+
+    /**
+     * Returns the material value of a piece in centipawns.
+     *
+     * @param piece The piece to value.
+     * @return The value of the piece, or {@code 0} if {@code piece} is {@code null}.
+     */
+    public static int pieceValue(ChessPiece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        if (piece instanceof Pawn) {
+            return 100;
+        }
+        if (piece instanceof Knight) {
+            return 300;
+        }
+        if (piece instanceof Bishop) {
+            return 320;
+        }
+        if (piece instanceof Queen) {
+            return 900;
+        }
+        if (piece instanceof King) {
+            return KING_VALUE;
+        }
+        return 500; // Rook
+    }
+
+    /**
+     * Evaluates the board from white's point of view.
+     *
+     * @param board The current state of the chessboard.
+     * @return The score in centipawns; positive values favor white.
+     */
+    public static int evaluate(ChessPiece[][] board) {
+        int score = 0;
+
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[i].length; j++) {
+                ChessPiece piece = board[i][j];
+                if (piece == null) {
+                    continue;
+                }
+
+                // Material plus a bonus for pieces (other than the king) close to the center
+                int value = pieceValue(piece);
+                if (!(piece instanceof King)) {
+                    value += 6 - (Math.abs(2 * i - 7) + Math.abs(2 * j - 7)) / 2;
+                }
+                score += piece.isWhite() ? value : -value;
+            }
+        }
+        return score;
+    }
+}
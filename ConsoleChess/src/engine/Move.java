@@ -0,0 +1,80 @@
+package engine;
+
+/**
+ * Represents a single move from one square of the board to another.
+ * Coordinates follow the board layout used by {@link main.ChessBoard}: x is the file (a-h) and y is the rank (1-8).
+ */
+public final class Move {
+
+    /** The starting x-coordinate (column) of the move. */
+    public final int fromX;
+
+    /** The starting y-coordinate (row) of the move. */
+    public final int fromY;
+
+    /** The target x-coordinate (column) of the move. */
+    public final int toX;
+
+    /** The target y-coordinate (row) of the move. */
+    public final int toY;
+
+    /**
+     * Constructs a new Move.
+     *
+     * @param fromX The starting x-coordinate (column) of the move.
+     * @param fromY The starting y-coordinate (row) of the move.
+     * @param toX   The target x-coordinate (column) of the move.
+     * @param toY   The target y-coordinate (row) of the move.
+     */
+    public Move(int fromX, int fromY, int toX, int toY) {
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.toX = toX;
+        this.toY = toY;
+    }
+
+    /**
+     * Parses a move in long algebraic notation (e.g., "e2e4").
+     * A trailing promotion character is accepted and ignored, since the rules engine has no promotion.
+     *
+     * @param text The move text.
+     * @return The parsed {@link Move}, or {@code null} if the text is not a valid move.
+     */
+    public static Move fromUci(String text) {
+        String move = text.trim().toLowerCase();
+
+        // Validate input: two chess coordinates, optionally followed by a promotion piece
+        if (!move.matches("^[a-h][1-8][a-h][1-8][qrbn]?$")) {
+            return null;
+        }
+        return new Move(move.charAt(0) - 'a', move.charAt(1) - '1', move.charAt(2) - 'a', move.charAt(3) - '1');
+    }
+
+    /**
+     * Returns the move in long algebraic notation (e.g., "e2e4").
+     *
+     * @return The move as text.
+     */
+    public String toUci() {
+        return "" + (char) ('a' + fromX) + (char) ('1' + fromY) + (char) ('a' + toX) + (char) ('1' + toY);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Move)) {
+            return false;
+        }
+        Move move = (Move) other;
+        return fromX == move.fromX && fromY == move.fromY && toX == move.toX && toY == move.toY;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((fromX * 8 + fromY) * 8 + toX) * 8 + toY;
+    }
+
+    @Override
+    public String toString() {
+        return toUci();
+    }
+}
@@ -0,0 +1,72 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import pieces.ChessPiece;
+
+/**
+ * Generates the moves available to one side by asking every piece which squares it can reach.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generates all valid moves for the given side, captures first (most valuable victim first).
+     * The board is not modified.
+     *
+     * @param board The current state of the chessboard.
+     * @param white {@code true} to generate moves for white, {@code false} for black.
+     * @return The list of valid moves.
+     */
+    public static List<Move> generateMoves(ChessPiece[][] board, boolean white) {
+        List<Move> captures = new ArrayList<>();
+        List<Move> quiets = new ArrayList<>();
+
+        for (int x = 0; x < board.length; x++) {
+            for (int y = 0; y < board[x].length; y++) {
+                ChessPiece piece = board[x][y];
+                if (piece == null || piece.isWhite() != white) {
+                    continue;
+                }
+
+                // Try every target square for the piece
+                for (int toX = 0; toX < board.length; toX++) {
+                    for (int toY = 0; toY < board[toX].length; toY++) {
+                        if (piece.isValidMove(toX, toY, board)) {
+                            Move move = new Move(x, y, toX, toY);
+                            if (board[toX][toY] != null) {
+                                captures.add(move);
+                            } else {
+                                quiets.add(move);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Most valuable victim first, so alpha-beta finds good moves early
+        captures.sort((a, b) -> Evaluator.pieceValue(board[b.toX][b.toY]) - Evaluator.pieceValue(board[a.toX][a.toY]));
+        captures.addAll(quiets);
+        return captures;
+    }
+
+    /**
+     * Generates only the capturing moves for the given side.
+     *
+     * @param board The current state of the chessboard.
+     * @param white {@code true} to generate captures for white, {@code false} for black.
+     * @return The list of valid captures, most valuable victim first.
+     */
+    public static List<Move> generateCaptures(ChessPiece[][] board, boolean white) {
+        List<Move> moves = generateMoves(board, white);
+        int captures = 0;
+        while (captures < moves.size() && board[moves.get(captures).toX][moves.get(captures).toY] != null) {
+            captures++;
+        }
+        return moves.subList(0, captures);
+    }
+}
@@ -0,0 +1,403 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import main.ChessBoard;
+import pieces.ChessPiece;
+import pieces.King;
+
+/**
+ * Iterative-deepening alpha-beta search over {@link ChessBoard} positions.
+ * The game ends when a king is captured, so capturing the king is scored as a mate.
+ * Every explored move is made on a copy of the board, leaving the caller's board untouched.
+ */
+public class Search {
+
+    /** Score for capturing the king, reduced by the number of plies needed to do so. */
+    public static final int MATE = 100000;
+
+    /** Scores within this distance of {@link #MATE} are mate scores. */
+    public static final int MAX_PLY = 1000;
+
+    /** Larger than any reachable score. */
+    private static final int INFINITY = 1000000;
+
+    /**
+     * The outcome of a completed search iteration.
+     */
+    public static final class Result {
+
+        /** The best move found, or {@code null} if the side to move has no moves. */
+        public final Move bestMove;
+
+        /** The score of the best move from the point of view of the side to move. */
+        public final int score;
+
+        /** The depth that was fully searched. */
+        public final int depth;
+
+        /** The number of positions visited so far. */
+        public final long nodes;
+
+        /** The time spent searching so far, in milliseconds. */
+        public final long millis;
+
+        private Result(Move bestMove, int score, int depth, long nodes, long millis) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.millis = millis;
+        }
+    }
+
+    /** Shared table of previously searched positions. */
+    private final TranspositionTable table;
+
+    /** Number of positions visited during the current search. */
+    private final LongAdder nodes = new LongAdder();
+
+    /** Set to abort the current search as soon as possible. */
+    private volatile boolean stopped;
+
+    /** Number of threads the root moves are split across. */
+    private int threads = 1;
+
+    /** Worker threads used when {@link #threads} is more than one. */
+    private ExecutorService pool;
+
+    /**
+     * Constructs a new Search.
+     *
+     * @param table The transposition table to use; it may be shared with other searches.
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Sets the number of threads used to search root moves in parallel.
+     *
+     * @param threads The number of threads, at least one.
+     */
+    public synchronized void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (this.threads > 1) {
+            pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+                Thread thread = new Thread(runnable, "search-worker");
+                thread.setDaemon(true); // Don't keep the program alive
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Requests the running search to stop. The search returns the best move of its last completed iteration.
+     * The request stays in effect until {@link #clearStop()} is called.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears a previous stop request, so the next search can run.
+     */
+    public void clearStop() {
+        stopped = false;
+    }
+
+    /**
+     * Searches the position with iterative deepening until {@code maxDepth} is reached or {@link #stop()} is called.
+     *
+     * @param board     The position to search; it is not modified.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     * @param maxDepth  The maximum depth to search, in plies.
+     * @param listener  Called with the result of each completed iteration, or {@code null}.
+     * @return The result of the deepest completed iteration.
+     */
+    public synchronized Result search(ChessBoard board, boolean whiteTurn, int maxDepth, Consumer<Result> listener) {
+        long start = System.currentTimeMillis();
+        nodes.reset();
+
+        List<Move> rootMoves = MoveGenerator.generateMoves(board.getPieces(), whiteTurn);
+        if (rootMoves.isEmpty()) {
+            return new Result(null, 0, 0, 0, 0);
+        }
+
+        // Fall back to the first move if not even depth one completes
+        Result best = new Result(rootMoves.get(0), 0, 0, 0, 0);
+
+        for (int depth = 1; depth <= maxDepth && !stopped; depth++) {
+            Move[] iterationBest = new Move[1];
+            AtomicInteger alpha = new AtomicInteger(-INFINITY);
+            int iterationDepth = depth;
+
+            // Search the previous best move first so the window narrows quickly
+            rootMoves.remove(best.bestMove);
+            rootMoves.add(0, best.bestMove);
+
+            List<Runnable> tasks = new ArrayList<>();
+            for (Move move : rootMoves) {
+                tasks.add(() -> {
+                    int score = searchRootMove(board, whiteTurn, move, iterationDepth, alpha.get());
+                    if (stopped) {
+                        return; // Score is unreliable
+                    }
+                    synchronized (iterationBest) {
+                        if (iterationBest[0] == null || score > alpha.get()) {
+                            iterationBest[0] = move;
+                            alpha.set(Math.max(score, alpha.get()));
+                        }
+                    }
+                });
+            }
+            runAll(tasks);
+
+            if (stopped) {
+                break; // Discard the incomplete iteration
+            }
+
+            best = new Result(iterationBest[0], alpha.get(), depth, nodes.sum(), System.currentTimeMillis() - start);
+            table.store(Zobrist.hash(board.getPieces(), whiteTurn), depth, best.score, TranspositionTable.EXACT,
+                    best.bestMove);
+            if (listener != null) {
+                listener.accept(best);
+            }
+
+            // A forced king capture can't be improved on
+            if (Math.abs(best.score) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs the tasks, on the worker threads if there are any.
+     *
+     * @param tasks The tasks to run.
+     */
+    private void runAll(List<Runnable> tasks) {
+        if (pool == null) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(pool.submit(task));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search worker failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Searches a single root move.
+     *
+     * @param board     The root position.
+     * @param whiteTurn {@code true} if it's white's turn to play at the root.
+     * @param move      The root move to search.
+     * @param depth     The depth of the iteration, including the root move.
+     * @param alpha     The best score found so far at the root.
+     * @return The score of the move from the point of view of the side to move at the root.
+     */
+    private int searchRootMove(ChessBoard board, boolean whiteTurn, Move move, int depth, int alpha) {
+        if (board.getPieces()[move.toX][move.toY] instanceof King) {
+            return MATE - 1;
+        }
+        ChessBoard child = makeMove(board, move);
+        return -negamax(child, !whiteTurn, depth - 1, -INFINITY, -alpha, 1);
+    }
+
+    /**
+     * Alpha-beta search of a position.
+     *
+     * @param board     The position to search.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     * @param depth     The remaining depth, in plies.
+     * @param alpha     The lower bound of the search window.
+     * @param beta      The upper bound of the search window.
+     * @param ply       The distance from the root, in plies.
+     * @return The score from the point of view of the side to move.
+     */
+    private int negamax(ChessBoard board, boolean whiteTurn, int depth, int alpha, int beta, int ply) {
+        if (stopped) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return quiesce(board, whiteTurn, alpha, beta, ply);
+        }
+        nodes.increment();
+
+        ChessPiece[][] pieces = board.getPieces();
+        long key = Zobrist.hash(pieces, whiteTurn);
+        Move hashMove = null;
+
+        // Reuse a previous result if it was searched deep enough
+        TranspositionTable.Entry entry = table.probe(key);
+        if (entry != null) {
+            hashMove = entry.bestMove;
+            if (entry.depth >= depth) {
+                int score = fromTable(entry.score, ply);
+                if (entry.bound == TranspositionTable.EXACT
+                        || (entry.bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (entry.bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        List<Move> moves = MoveGenerator.generateMoves(pieces, whiteTurn);
+        if (moves.isEmpty()) {
+            return 0; // No moves left, treat as a draw
+        }
+        if (hashMove != null && moves.remove(hashMove)) {
+            moves.add(0, hashMove);
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        Move bestMove = null;
+
+        for (Move move : moves) {
+            int score;
+            if (pieces[move.toX][move.toY] instanceof King) {
+                score = MATE - ply - 1; // Capturing the king ends the game
+            } else {
+                score = -negamax(makeMove(board, move), !whiteTurn, depth - 1, -beta, -alpha, ply + 1);
+            }
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break; // The opponent will avoid this position
+            }
+        }
+
+        int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, depth, toTable(bestScore, ply), bound, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures until the position is quiet, to avoid misjudging positions in the middle of an exchange.
+     *
+     * @param board     The position to search.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     * @param alpha     The lower bound of the search window.
+     * @param beta      The upper bound of the search window.
+     * @param ply       The distance from the root, in plies.
+     * @return The score from the point of view of the side to move.
+     */
+    private int quiesce(ChessBoard board, boolean whiteTurn, int alpha, int beta, int ply) {
+        if (stopped) {
+            return 0;
+        }
+        nodes.increment();
+
+        ChessPiece[][] pieces = board.getPieces();
+
+        // The side to move may decline to capture
+        int standPat = whiteTurn ? Evaluator.evaluate(pieces) : -Evaluator.evaluate(pieces);
+        if (standPat >= beta) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        for (Move move : MoveGenerator.generateCaptures(pieces, whiteTurn)) {
+            if (pieces[move.toX][move.toY] instanceof King) {
+                return MATE - ply - 1;
+            }
+            int score = -quiesce(makeMove(board, move), !whiteTurn, -beta, -alpha, ply + 1);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Makes a move on a copy of the board.
+     *
+     * @param board The board to copy.
+     * @param move  The move to make.
+     * @return The new board with the move made.
+     */
+    private static ChessBoard makeMove(ChessBoard board, Move move) {
+        ChessBoard child = new ChessBoard(board);
+        ChessPiece[][] pieces = child.getPieces();
+        pieces[move.fromX][move.fromY].makeMove(move.toX, move.toY, pieces);
+        return child;
+    }
+
+    /**
+     * Converts a mate score relative to the root into one relative to the current position, for storing.
+     *
+     * @param score The score relative to the root.
+     * @param ply   The distance from the root, in plies.
+     * @return The score to store in the transposition table.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -(MATE - MAX_PLY)) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back into one relative to the root.
+     *
+     * @param score The score stored in the transposition table.
+     * @param ply   The distance from the root, in plies.
+     * @return The score relative to the root.
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -(MATE - MAX_PLY)) {
+            return score + ply;
+        }
+        return score;
+    }
+}
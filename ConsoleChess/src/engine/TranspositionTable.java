@@ -0,0 +1,110 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, indexed by Zobrist hash.
+ * Entries are immutable and replaced by whole-reference writes, so the table can be shared between search threads
+ * without locking; a racing reader simply sees either the old or the new entry.
+ */
+public class TranspositionTable {
+
+    /** The stored score is exact. */
+    public static final int EXACT = 0;
+
+    /** The stored score is a lower bound (the search failed high). */
+    public static final int LOWER_BOUND = 1;
+
+    /** The stored score is an upper bound (the search failed low). */
+    public static final int UPPER_BOUND = 2;
+
+    /** Approximate memory used by one entry, including the object header and its move. */
+    private static final int ENTRY_BYTES = 64;
+
+    /**
+     * A single stored search result.
+     */
+    public static final class Entry {
+
+        /** The full hash of the position, used to detect index collisions. */
+        public final long key;
+
+        /** The remaining depth the position was searched to. */
+        public final int depth;
+
+        /** The score of the position. */
+        public final int score;
+
+        /** Whether the score is exact or a bound; one of {@link #EXACT}, {@link #LOWER_BOUND}, {@link #UPPER_BOUND}. */
+        public final int bound;
+
+        /** The best move found in the position, or {@code null} if none. */
+        public final Move bestMove;
+
+        private Entry(long key, int depth, int score, int bound, Move bestMove) {
+            this.key = key;
+            this.depth = depth;
+            this.score = score;
+            this.bound = bound;
+            this.bestMove = bestMove;
+        }
+    }
+
+    /** The table slots. The length is always a power of two. */
+    private Entry[] entries;
+
+    /**
+     * Constructs a new TranspositionTable.
+     *
+     * @param megabytes The approximate memory budget of the table.
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Resizes the table to fit the memory budget. All stored entries are discarded.
+     *
+     * @param megabytes The approximate memory budget of the table.
+     */
+    public void resize(int megabytes) {
+        long wanted = Math.max(1, megabytes) * 1024L * 1024L / ENTRY_BYTES;
+
+        // Round down to a power of two so the index is a simple mask
+        int size = Integer.highestOneBit((int) Math.min(wanted, 1 << 30));
+        entries = new Entry[size];
+    }
+
+    /**
+     * Discards all stored entries.
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The Zobrist hash of the position.
+     * @return The stored entry, or {@code null} if the position is not in the table.
+     */
+    public Entry probe(long key) {
+        Entry[] table = entries;
+        Entry entry = table[(int) key & (table.length - 1)];
+        return entry != null && entry.key == key ? entry : null;
+    }
+
+    /**
+     * Stores a search result, replacing any previous entry in the same slot.
+     *
+     * @param key      The Zobrist hash of the position.
+     * @param depth    The remaining depth the position was searched to.
+     * @param score    The score of the position.
+     * @param bound    Whether the score is exact or a bound.
+     * @param bestMove The best move found, or {@code null} if none.
+     */
+    public void store(long key, int depth, int score, int bound, Move bestMove) {
+        Entry[] table = entries;
+        table[(int) key & (table.length - 1)] = new Entry(key, depth, score, bound, bestMove);
+    }
+}
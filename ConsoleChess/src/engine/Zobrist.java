@@ -0,0 +1,94 @@
+package engine;
+
+import java.util.Random;
+
+import pieces.Bishop;
+import pieces.ChessPiece;
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Queen;
+
+/**
+ * Computes 64-bit Zobrist hashes of positions, used as keys for the transposition table.
+ */
+public final class Zobrist {
+
+    /** Random keys for each of the 12 piece kinds on each of the 64 squares. */
+    private static final long[][] PIECE_KEYS = new long[12][64];
+
+    /** Key mixed in when it's black's turn to play. */
+    private static final long BLACK_TO_MOVE;
+
+    /** Key mixed in for pawns that may still make a two-square move. */
+    private static final long[] FIRST_MOVE_KEYS = new long[64];
+
+    static {
+        // Fixed seed so hashes are stable between runs
+        Random random = new Random(0x5EED_C4E55L);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            for (int j = 0; j < PIECE_KEYS[i].length; j++) {
+                PIECE_KEYS[i][j] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < FIRST_MOVE_KEYS.length; i++) {
+            FIRST_MOVE_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Computes the hash of a position.
+     *
+     * @param board     The current state of the chessboard.
+     * @param whiteTurn {@code true} if it's white's turn to play.
+     * @return The 64-bit hash of the position.
+     */
+    public static long hash(ChessPiece[][] board, boolean whiteTurn) {
+        long hash = whiteTurn ? 0 : BLACK_TO_MOVE;
+
+        for (int x = 0; x < board.length; x++) {
+            for (int y = 0; y < board[x].length; y++) {
+                ChessPiece piece = board[x][y];
+                if (piece == null) {
+                    continue;
+                }
+                int square = x * 8 + y;
+                hash ^= PIECE_KEYS[pieceIndex(piece)][square];
+
+                // A pawn that has not moved yet behaves differently from one that has
+                if (piece instanceof Pawn && ((Pawn) piece).isFirstMove()) {
+                    hash ^= FIRST_MOVE_KEYS[square];
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Maps a piece to an index from 0 to 11, by type and color.
+     *
+     * @param piece The piece to map.
+     * @return The index of the piece kind.
+     */
+    private static int pieceIndex(ChessPiece piece) {
+        int type;
+        if (piece instanceof Pawn) {
+            type = 0;
+        } else if (piece instanceof Knight) {
+            type = 1;
+        } else if (piece instanceof Bishop) {
+            type = 2;
+        } else if (piece instanceof Queen) {
+            type = 4;
+        } else if (piece instanceof King) {
+            type = 5;
+        } else {
+            type = 3; // Rook
+        }
+        return piece.isWhite() ? type : type + 6;
+    }
+}
@@ -0,0 +1,269 @@
+package fuzz;
+
+import java.util.Arrays;
+
+import engine.BoardBatch;
+
+/**
+ * Move generator written independently of the {@link pieces} classes, used as a reference to cross-check them.
+ * Boards are arrays of 64 {@link BoardBatch} piece codes indexed by {@code x * 8 + y}, and moves are encoded as
+ * {@code from * 64 + to}. It implements the game's rules: no castling, en passant, promotion or check, and the game
+ * ends when a king is captured.
+ */
+public final class ReferenceMoveGenerator {
+
+    /** Knight jumps as (dx, dy) pairs. */
+    private static final int[][] KNIGHT_JUMPS = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 },
+            { -2, 1 }, { -1, 2 } };
+
+    /** Horizontal and vertical directions. */
+    private static final int[][] STRAIGHT = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+
+    /** Diagonal directions. */
+    private static final int[][] DIAGONAL = { { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+    /** All eight directions. */
+    private static final int[][] ALL = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 }, { 1, 1 }, { 1, -1 }, { -1, 1 },
+            { -1, -1 } };
+
+    private ReferenceMoveGenerator() {
+    }
+
+    /**
+     * Returns the standard starting position.
+     *
+     * @return The board in the starting position.
+     */
+    public static int[] startPosition() {
+        int[] board = new int[64];
+        int[] backRow = { BoardBatch.ROOK, BoardBatch.KNIGHT, BoardBatch.BISHOP, BoardBatch.QUEEN, BoardBatch.KING,
+                BoardBatch.BISHOP, BoardBatch.KNIGHT, BoardBatch.ROOK };
+        for (int x = 0; x < 8; x++) {
+            board[x * 8] = backRow[x];
+            board[x * 8 + 1] = BoardBatch.PAWN | BoardBatch.FIRST_MOVE;
+            board[x * 8 + 6] = BoardBatch.PAWN | BoardBatch.FIRST_MOVE | BoardBatch.BLACK;
+            board[x * 8 + 7] = backRow[x] | BoardBatch.BLACK;
+        }
+        return board;
+    }
+
+    /**
+     * Generates all moves for one side, sorted in ascending order.
+     *
+     * @param board The board.
+     * @param white {@code true} to generate moves for white, {@code false} for black.
+     * @return The encoded moves.
+     */
+    public static int[] generate(int[] board, boolean white) {
+        int[] moves = new int[256];
+        int count = 0;
+
+        for (int from = 0; from < 64; from++) {
+            int code = board[from];
+            if (code == 0 || isWhite(code) != white) {
+                continue;
+            }
+            int x = from >> 3;
+            int y = from & 7;
+
+            switch (code & BoardBatch.TYPE_MASK) {
+                case BoardBatch.PAWN:
+                    count = pawnMoves(board, from, x, y, white, moves, count);
+                    break;
+                case BoardBatch.KNIGHT:
+                    count = stepMoves(board, from, x, y, white, KNIGHT_JUMPS, moves, count);
+                    break;
+                case BoardBatch.KING:
+                    count = stepMoves(board, from, x, y, white, ALL, moves, count);
+                    break;
+                case BoardBatch.BISHOP:
+                    count = slideMoves(board, from, x, y, white, DIAGONAL, moves, count);
+                    break;
+                case BoardBatch.ROOK:
+                    count = slideMoves(board, from, x, y, white, STRAIGHT, moves, count);
+                    break;
+                case BoardBatch.QUEEN:
+                    count = slideMoves(board, from, x, y, white, ALL, moves, count);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown piece code " + code + " on square " + from);
+            }
+        }
+
+        int[] result = Arrays.copyOf(moves, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Makes a move on the board.
+     *
+     * @param board The board to change.
+     * @param move  The encoded move.
+     */
+    public static void makeMove(int[] board, int move) {
+        int from = move >> 6;
+        int to = move & 63;
+        board[to] = board[from] & ~BoardBatch.FIRST_MOVE; // Only pawns carry the flag, and it's gone once moved
+        board[from] = 0;
+    }
+
+    /**
+     * Checks whether both kings are still on the board.
+     *
+     * @param board The board.
+     * @return {@code true} if the game is still running, {@code false} if a king was captured.
+     */
+    public static boolean hasBothKings(int[] board) {
+        boolean white = false;
+        boolean black = false;
+        for (int code : board) {
+            if ((code & BoardBatch.TYPE_MASK) == BoardBatch.KING) {
+                white |= isWhite(code);
+                black |= !isWhite(code);
+            }
+        }
+        return white && black;
+    }
+
+    /**
+     * Counts the leaf positions of the move tree, stopping at positions where a king was captured.
+     *
+     * @param board The board; it is not modified.
+     * @param white {@code true} if it's white's turn to play.
+     * @param depth The depth of the tree, in plies.
+     * @return The number of leaf positions.
+     */
+    public static long perft(int[] board, boolean white, int depth) {
+        if (depth == 0 || !hasBothKings(board)) {
+            return 1;
+        }
+        long leaves = 0;
+        for (int move : generate(board, white)) {
+            int[] child = board.clone();
+            makeMove(child, move);
+            leaves += perft(child, !white, depth - 1);
+        }
+        return leaves;
+    }
+
+    /**
+     * Adds the moves of a pawn: one square forward, two on its first move, or a diagonal capture.
+     *
+     * @param board The board.
+     * @param from  The square of the piece.
+     * @param x     The x-coordinate (column) of the piece.
+     * @param y     The y-coordinate (row) of the piece.
+     * @param white {@code true} if the piece is white.
+     * @param moves The array the moves are added to.
+     * @param count The number of moves in the array.
+     * @return The new number of moves in the array.
+     */
+    private static int pawnMoves(int[] board, int from, int x, int y, boolean white, int[] moves, int count) {
+        int direction = white ? 1 : -1;
+        int ahead = y + direction;
+        if (ahead < 0 || ahead > 7) {
+            return count; // Pawns on the last rank are stuck, there is no promotion
+        }
+
+        if (board[x * 8 + ahead] == 0) {
+            moves[count++] = from * 64 + x * 8 + ahead;
+
+            int twoAhead = ahead + direction;
+            if ((board[from] & BoardBatch.FIRST_MOVE) != 0 && twoAhead >= 0 && twoAhead <= 7
+                    && board[x * 8 + twoAhead] == 0) {
+                moves[count++] = from * 64 + x * 8 + twoAhead;
+            }
+        }
+
+        for (int side = -1; side <= 1; side += 2) {
+            int toX = x + side;
+            if (toX >= 0 && toX <= 7 && isEnemy(board[toX * 8 + ahead], white)) {
+                moves[count++] = from * 64 + toX * 8 + ahead;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the moves of a piece that jumps by fixed steps, like a knight or a king.
+     *
+     * @param board The board.
+     * @param from  The square of the piece.
+     * @param x     The x-coordinate (column) of the piece.
+     * @param y     The y-coordinate (row) of the piece.
+     * @param white {@code true} if the piece is white.
+     * @param steps The (dx, dy) steps the piece can make.
+     * @param moves The array the moves are added to.
+     * @param count The number of moves in the array.
+     * @return The new number of moves in the array.
+     */
+    private static int stepMoves(int[] board, int from, int x, int y, boolean white, int[][] steps, int[] moves,
+            int count) {
+        for (int[] step : steps) {
+            int toX = x + step[0];
+            int toY = y + step[1];
+            if (toX >= 0 && toX <= 7 && toY >= 0 && toY <= 7) {
+                int target = board[toX * 8 + toY];
+                if (target == 0 || isEnemy(target, white)) {
+                    moves[count++] = from * 64 + toX * 8 + toY;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the moves of a sliding piece, following each direction until the first piece or the edge of the board.
+     *
+     * @param board      The board.
+     * @param from       The square of the piece.
+     * @param x          The x-coordinate (column) of the piece.
+     * @param y          The y-coordinate (row) of the piece.
+     * @param white      {@code true} if the piece is white.
+     * @param directions The (dx, dy) directions the piece slides in.
+     * @param moves      The array the moves are added to.
+     * @param count      The number of moves in the array.
+     * @return The new number of moves in the array.
+     */
+    private static int slideMoves(int[] board, int from, int x, int y, boolean white, int[][] directions,
+            int[] moves, int count) {
+        for (int[] direction : directions) {
+            int toX = x + direction[0];
+            int toY = y + direction[1];
+            while (toX >= 0 && toX <= 7 && toY >= 0 && toY <= 7) {
+                int target = board[toX * 8 + toY];
+                if (target == 0 || isEnemy(target, white)) {
+                    moves[count++] = from * 64 + toX * 8 + toY;
+                }
+                if (target != 0) {
+                    break; // The ray ends at the first piece
+                }
+                toX += direction[0];
+                toY += direction[1];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if a piece code belongs to a white piece.
+     *
+     * @param code The piece code, not {@code 0}.
+     * @return {@code true} if the piece is white, {@code false} if it is black.
+     */
+    private static boolean isWhite(int code) {
+        return (code & BoardBatch.BLACK) == 0;
+    }
+
+    /**
+     * Checks if a square holds a piece of the other side.
+     *
+     * @param code  The piece code of the square, or {@code 0} if empty.
+     * @param white {@code true} if the moving side is white.
+     * @return {@code true} if the square holds an opponent's piece, {@code false} otherwise.
+     */
+    private static boolean isEnemy(int code, boolean white) {
+        return code != 0 && isWhite(code) != white;
+    }
+}
@@ -0,0 +1,449 @@
+package fuzz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import engine.BatchMoveValidator;
+import engine.BoardBatch;
+import engine.Move;
+import engine.MoveGenerator;
+import main.ChessBoard;
+import main.ChessGame;
+import pieces.ChessPiece;
+import pieces.King;
+import pieces.Pawn;
+
+/**
+ * Differential stress test of the rules engine.
+ * <p>
+ * Plays random games through {@link ChessGame#movePiece} and, at every ply, compares the moves accepted by the
+ * {@link pieces} classes and by {@link BatchMoveValidator} with those of the independent
+ * {@link ReferenceMoveGenerator}. It also tries moves that must be rejected and checks that they leave no trace:
+ * no piece moved, no stale {@code x}/{@code y}, and no pawn losing its first move. Perft counts are checked against
+ * the known values of the starting position before the random games start.
+ * <p>
+ * Usage: {@code RulesFuzzer [seconds=10] [seed]}. On the first failure the seed and the moves of the game are
+ * printed and the program exits with status 1.
+ */
+public class RulesFuzzer {
+
+    /** Known perft counts of the starting position for depths 1 to 3. No check or special move matters this early. */
+    private static final long[] KNOWN_PERFT = { 20, 400, 8902 };
+
+    /** Deepest perft compared between the pieces classes and the reference. */
+    private static final int MAX_PERFT_DEPTH = 4;
+
+    /** Games longer than this are cut off. */
+    private static final int MAX_PLIES = 300;
+
+    /** Number of invalid moves tried at every ply. */
+    private static final int REJECTED_PER_PLY = 4;
+
+    /** Number of positions validated together by {@link BatchMoveValidator}. */
+    private static final int BATCH_SIZE = 4096;
+
+    /** Source of random moves. */
+    private final Random random;
+
+    /** Positions waiting to be checked with {@link BatchMoveValidator}. */
+    private final BoardBatch batch = new BoardBatch(BATCH_SIZE);
+
+    /** The starting square of each batched move. */
+    private final int[] batchFrom = new int[BATCH_SIZE];
+
+    /** The target square of each batched move. */
+    private final int[] batchTo = new int[BATCH_SIZE];
+
+    /** Whether the reference accepts each batched move. */
+    private final boolean[] batchExpected = new boolean[BATCH_SIZE];
+
+    /** Number of positions in the batch. */
+    private int batchCount;
+
+    /** Moves of the game being played, for reproducing failures. */
+    private final List<String> history = new ArrayList<>();
+
+    /** Number of games played. */
+    private long games;
+
+    /** Number of moves played. */
+    private long plies;
+
+    /** Number of move validations compared with the reference. */
+    private long checks;
+
+    /**
+     * Constructs a new RulesFuzzer.
+     *
+     * @param seed The seed of the random games.
+     */
+    public RulesFuzzer(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Entry point of the fuzzer.
+     *
+     * @param args Optionally the number of seconds to run and the random seed.
+     */
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 10;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        RulesFuzzer fuzzer = new RulesFuzzer(seed);
+
+        try {
+            fuzzer.checkPerft();
+            fuzzer.run(seconds * 1000);
+        } catch (IllegalStateException e) {
+            System.err.println("FAILED: " + e.getMessage());
+            System.err.println("Seed: " + seed);
+            System.err.println("Game " + fuzzer.games + " moves: " + String.join(" ", fuzzer.history));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compares perft counts of the pieces classes, the reference, and the known values.
+     */
+    public void checkPerft() {
+        for (int depth = 1; depth <= MAX_PERFT_DEPTH; depth++) {
+            long actual = perft(new ChessBoard(), true, depth);
+            long expected = ReferenceMoveGenerator.perft(ReferenceMoveGenerator.startPosition(), true, depth);
+
+            if (actual != expected) {
+                fail("perft(" + depth + ") is " + actual + ", reference says " + expected);
+            }
+            if (depth <= KNOWN_PERFT.length && actual != KNOWN_PERFT[depth - 1]) {
+                fail("perft(" + depth + ") is " + actual + ", expected " + KNOWN_PERFT[depth - 1]);
+            }
+            System.out.println("perft(" + depth + ") = " + actual + " OK");
+        }
+    }
+
+    /**
+     * Plays random games until the time is up.
+     *
+     * @param millis The time to run, in milliseconds.
+     */
+    public void run(long millis) {
+        long start = System.currentTimeMillis();
+
+        while (System.currentTimeMillis() - start < millis) {
+            history.clear();
+            playGame();
+            games++;
+        }
+        validateBatch();
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        System.out.println(games + " games, " + plies + " moves played (" + plies * 60000 / elapsed + " per minute), "
+                + checks + " moves checked (" + checks * 60000 / elapsed + " per minute), no failures");
+    }
+
+    /**
+     * Plays one random game, checking the rules engine against the reference at every ply.
+     */
+    private void playGame() {
+        ChessGame game = new ChessGame();
+        int[] reference = ReferenceMoveGenerator.startPosition();
+
+        for (int ply = 0; ply < MAX_PLIES && !game.isFinished(); ply++) {
+            ChessPiece[][] pieces = game.getBoard().getPieces();
+            boolean white = game.isWhiteTurn();
+            checkBoard(pieces, reference);
+
+            // Generating moves probes every square, and must not change anything
+            int[] expected = ReferenceMoveGenerator.generate(reference, white);
+            int[] actual = encode(MoveGenerator.generateMoves(pieces, white));
+            checkBoard(pieces, reference);
+            if (!Arrays.equals(actual, expected)) {
+                fail("Move lists differ: pieces " + describe(actual) + ", reference " + describe(expected));
+            }
+            checks += countPieces(pieces, white) * 64;
+            if (expected.length == 0) {
+                break;
+            }
+
+            // Rejected moves must leave the game exactly as it was
+            for (int i = 0; i < REJECTED_PER_PLY; i++) {
+                int move = randomMove(pieces, white);
+                if (Arrays.binarySearch(expected, move) >= 0) {
+                    continue;
+                }
+                Snapshot before = new Snapshot(pieces);
+                if (game.movePiece(move >> 9, (move >> 6) & 7, (move >> 3) & 7, move & 7)) {
+                    fail("Invalid move " + text(move) + " was accepted");
+                }
+                before.verify(pieces, text(move));
+                if (game.isWhiteTurn() != white) {
+                    fail("Rejected move " + text(move) + " changed the turn");
+                }
+                checks++;
+            }
+
+            // Queue a move for the batch validator, valid about half of the time
+            int candidate = random.nextBoolean() ? expected[random.nextInt(expected.length)] : randomMove(pieces, white);
+            batch.set(batchCount, game.getBoard(), white);
+            batchFrom[batchCount] = candidate >> 6;
+            batchTo[batchCount] = candidate & 63;
+            batchExpected[batchCount] = Arrays.binarySearch(expected, candidate) >= 0;
+            if (++batchCount == BATCH_SIZE) {
+                validateBatch();
+            }
+
+            // Play a random valid move in both implementations
+            int move = expected[random.nextInt(expected.length)];
+            history.add(text(move));
+            if (!game.movePiece(move >> 9, (move >> 6) & 7, (move >> 3) & 7, move & 7)) {
+                fail("Valid move " + text(move) + " was rejected");
+            }
+            ReferenceMoveGenerator.makeMove(reference, move);
+            plies++;
+        }
+        checkBoard(game.getBoard().getPieces(), reference);
+    }
+
+    /**
+     * Checks the queued moves with {@link BatchMoveValidator} and empties the batch.
+     */
+    private void validateBatch() {
+        long[] valid = BatchMoveValidator.validate(batch, batchFrom, batchTo);
+
+        for (int i = 0; i < batchCount; i++) {
+            boolean actual = (valid[i >>> 6] & (1L << i)) != 0;
+            if (actual != batchExpected[i]) {
+                fail("Batch validator says " + actual + " for " + text(batchFrom[i] * 64 + batchTo[i])
+                        + " on batched board " + i);
+            }
+        }
+        checks += batchCount;
+        batchCount = 0;
+    }
+
+    /**
+     * Checks that the pieces match the reference board and know their own position.
+     *
+     * @param pieces    The board of the game.
+     * @param reference The reference board.
+     */
+    private void checkBoard(ChessPiece[][] pieces, int[] reference) {
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                ChessPiece piece = pieces[x][y];
+                if (BoardBatch.pieceCode(piece) != reference[x * 8 + y]) {
+                    fail("Square " + square(x, y) + " holds code " + BoardBatch.pieceCode(piece) + ", reference has "
+                            + reference[x * 8 + y]);
+                }
+                if (piece != null && (piece.getX() != x || piece.getY() != y)) {
+                    fail("Piece on " + square(x, y) + " thinks it is on " + square(piece.getX(), piece.getY()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks a random move, most likely an invalid one.
+     * Half of the time it starts on any square, so empty squares and the opponent's pieces are tried as well;
+     * otherwise it starts on one of the side's own pieces.
+     *
+     * @param pieces The board.
+     * @param white  {@code true} if it's white's turn to play.
+     * @return The encoded move.
+     */
+    private int randomMove(ChessPiece[][] pieces, boolean white) {
+        int from = random.nextInt(64);
+        if (random.nextBoolean()) {
+            return from * 64 + random.nextInt(64);
+        }
+
+        // Move on to the next square holding one of the side's pieces
+        for (int i = 0; i < 64; i++) {
+            ChessPiece piece = pieces[from >> 3][from & 7];
+            if (piece != null && piece.isWhite() == white) {
+                break;
+            }
+            from = (from + 1) & 63;
+        }
+        return from * 64 + random.nextInt(64);
+    }
+
+    /**
+     * Counts the leaf positions of the move tree using the pieces classes.
+     *
+     * @param board The board; it is not modified.
+     * @param white {@code true} if it's white's turn to play.
+     * @param depth The depth of the tree, in plies.
+     * @return The number of leaf positions.
+     */
+    private static long perft(ChessBoard board, boolean white, int depth) {
+        if (depth == 0 || !hasBothKings(board.getPieces())) {
+            return 1;
+        }
+        long leaves = 0;
+        for (Move move : MoveGenerator.generateMoves(board.getPieces(), white)) {
+            ChessBoard child = new ChessBoard(board);
+            ChessPiece[][] pieces = child.getPieces();
+            pieces[move.fromX][move.fromY].makeMove(move.toX, move.toY, pieces);
+            leaves += perft(child, !white, depth - 1);
+        }
+        return leaves;
+    }
+
+    /**
+     * Counts the pieces of one side.
+     *
+     * @param pieces The board.
+     * @param white  {@code true} to count white pieces, {@code false} for black.
+     * @return The number of pieces of the side.
+     */
+    private static int countPieces(ChessPiece[][] pieces, boolean white) {
+        int count = 0;
+        for (ChessPiece[] column : pieces) {
+            for (ChessPiece piece : column) {
+                if (piece != null && piece.isWhite() == white) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether both kings are still on the board.
+     *
+     * @param pieces The board.
+     * @return {@code true} if the game is still running, {@code false} if a king was captured.
+     */
+    private static boolean hasBothKings(ChessPiece[][] pieces) {
+        int kings = 0;
+        for (ChessPiece[] column : pieces) {
+            for (ChessPiece piece : column) {
+                if (piece instanceof King) {
+                    kings += piece.isWhite() ? 1 : 2;
+                }
+            }
+        }
+        return kings == 3;
+    }
+
+    /**
+     * Encodes moves the way the reference does, sorted in ascending order.
+     *
+     * @param moves The moves to encode.
+     * @return The encoded moves.
+     */
+    private static int[] encode(List<Move> moves) {
+        int[] result = new int[moves.size()];
+        for (int i = 0; i < result.length; i++) {
+            Move move = moves.get(i);
+            result[i] = (move.fromX * 8 + move.fromY) * 64 + move.toX * 8 + move.toY;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Formats encoded moves for a failure message.
+     *
+     * @param moves The encoded moves.
+     * @return The moves in long algebraic notation, as a list.
+     */
+    private static String describe(int[] moves) {
+        List<String> result = new ArrayList<>();
+        for (int move : moves) {
+            result.add(text(move));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Formats an encoded move in long algebraic notation (e.g., "e2e4").
+     *
+     * @param move The encoded move.
+     * @return The move as text.
+     */
+    private static String text(int move) {
+        return new Move(move >> 9, (move >> 6) & 7, (move >> 3) & 7, move & 7).toUci();
+    }
+
+    /**
+     * Formats a square as a chess coordinate (e.g., "e2").
+     *
+     * @param x The x-coordinate (column).
+     * @param y The y-coordinate (row).
+     * @return The coordinate as text.
+     */
+    private static String square(int x, int y) {
+        return "" + (char) ('a' + x) + (char) ('1' + y);
+    }
+
+    /**
+     * Reports a failure by throwing an exception, which stops the fuzzer.
+     *
+     * @param message The description of the failure.
+     * @throws IllegalStateException always.
+     */
+    private static void fail(String message) {
+        throw new IllegalStateException(message);
+    }
+
+    /**
+     * The full state of a board: which piece is on each square, where each piece thinks it is,
+     * and whether each pawn has moved.
+     */
+    private static final class Snapshot {
+
+        /** The piece on each square, compared by identity. */
+        private final ChessPiece[] squares = new ChessPiece[64];
+
+        /** The x-coordinate each piece had. */
+        private final int[] xs = new int[64];
+
+        /** The y-coordinate each piece had. */
+        private final int[] ys = new int[64];
+
+        /** Whether each pawn could still make its first move. */
+        private final boolean[] firstMoves = new boolean[64];
+
+        /**
+         * Records the current state of a board.
+         *
+         * @param pieces The board.
+         */
+        Snapshot(ChessPiece[][] pieces) {
+            for (int i = 0; i < 64; i++) {
+                ChessPiece piece = pieces[i >> 3][i & 7];
+                squares[i] = piece;
+                if (piece != null) {
+                    xs[i] = piece.getX();
+                    ys[i] = piece.getY();
+                    firstMoves[i] = piece instanceof Pawn && ((Pawn) piece).isFirstMove();
+                }
+            }
+        }
+
+        /**
+         * Checks that the board is still in the recorded state.
+         *
+         * @param pieces The board.
+         * @param move   The move that was tried, for the failure message.
+         */
+        void verify(ChessPiece[][] pieces, String move) {
+            for (int i = 0; i < 64; i++) {
+                ChessPiece piece = pieces[i >> 3][i & 7];
+                String where = " on " + square(i >> 3, i & 7) + " after rejected move " + move;
+                if (piece != squares[i]) {
+                    fail("Piece changed" + where);
+                }
+                if (piece != null && (piece.getX() != xs[i] || piece.getY() != ys[i])) {
+                    fail("Piece coordinates changed" + where);
+                }
+                if (piece instanceof Pawn && ((Pawn) piece).isFirstMove() != firstMoves[i]) {
+                    fail("Pawn first move flag changed" + where);
+                }
+            }
+        }
+    }
+}
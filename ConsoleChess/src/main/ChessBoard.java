@@ -27,6 +27,23 @@ public class ChessBoard {
         pieces = getSetOfPieces();
     }
 
+    /**
+     * Copy constructor for the ChessBoard class.
+     * Creates an independent board holding copies of every piece of {@code other}.
+     *
+     * @param other The board to copy.
+     */
+    public ChessBoard(ChessBoard other) {
+        pieces = new ChessPiece[boardSize][boardSize];
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                if (other.pieces[i][j] != null) {
+                    pieces[i][j] = other.pieces[i][j].copy();
+                }
+            }
+        }
+    }
+
     /**
      * Initializes and returns the chessboard with a standard set of pieces.
      *
@@ -28,6 +28,24 @@ public class ChessGame {
         board.print();
     }
 
+    /**
+     * Returns the chessboard holding the current state of the game.
+     *
+     * @return The game's {@link ChessBoard}.
+     */
+    public ChessBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Checks whose turn it is.
+     *
+     * @return {@code true} if it's white's turn to play, {@code false} otherwise.
+     */
+    public boolean isWhiteTurn() {
+        return whiteTurn;
+    }
+
     /**
      * Attempts to move a piece from one position to another on the chessboard.
      *
@@ -15,11 +15,19 @@ public class Main {
 	/**
 	 * Entry point of the program.
 	 *
-	 * @param args Command-line arguments (not used in this program).
+	 * @param args Command-line arguments; {@code uci} starts the engine protocol directly, without any prompt.
 	 * @throws IOException if an I/O error occurs during execution.
 	 */
 	public static void main(String[] args) throws IOException {
 
+		// Chess GUIs and tournament tools expect protocol output only, so skip the prompt
+		if (args.length > 0 && args[0].equalsIgnoreCase("uci")) {
+			scanner = new Scanner(System.in);
+			new UciProtocol(scanner, System.out).run();
+			scanner.close();
+			return;
+		}
+
 		while (true) {
 			System.out.println("Ready for a game? y/n");
 
@@ -28,6 +36,14 @@ public class Main {
 			// Read the user's response
 			String answer = scanner.next().toLowerCase().trim();
 
+			// Hand over to the engine protocol when driven by a chess GUI or tournament tool
+			if (answer.equals("uci")) {
+				UciProtocol protocol = new UciProtocol(scanner, System.out);
+				protocol.execute(answer);
+				protocol.run();
+				break;
+			}
+
 			// If the user doesn't agree exit
 			if (!answer.equals("y")) {
 
@@ -0,0 +1,320 @@
+package main;
+
+import java.io.PrintStream;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import engine.Move;
+import engine.Search;
+import engine.TranspositionTable;
+
+/**
+ * Front-end for the Universal Chess Interface (UCI), so the game can be driven by external tools
+ * such as tournament managers and chess GUIs.
+ * The search runs on a background thread, so commands like {@code stop} are handled while it is thinking.
+ */
+public class UciProtocol {
+
+    /** Default size of the transposition table, in megabytes. */
+    private static final int DEFAULT_HASH = 16;
+
+    /** Largest allowed size of the transposition table, in megabytes. */
+    private static final int MAX_HASH = 1024;
+
+    /** Largest allowed number of search threads. */
+    private static final int MAX_THREADS = 64;
+
+    /** Depth used when the search is limited by time or by the {@code stop} command only. */
+    private static final int MAX_DEPTH = 64;
+
+    /** Source of commands. */
+    private final Scanner input;
+
+    /** Destination of responses. */
+    private final PrintStream output;
+
+    /** Transposition table shared by all searches. */
+    private final TranspositionTable table = new TranspositionTable(DEFAULT_HASH);
+
+    /** The search engine. */
+    private final Search search = new Search(table);
+
+    /** Stops the search when its time is up. */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-timer");
+        thread.setDaemon(true); // Don't keep the program alive
+        return thread;
+    });
+
+    /** The position to search, as set by the {@code position} command, or {@code null} if that command failed. */
+    private ChessGame game = new ChessGame();
+
+    /** The thread running the current search, or {@code null} if idle. */
+    private Thread searchThread;
+
+    /** Released by the {@code stop} command; an infinite search waits for it before reporting its move. */
+    private CountDownLatch stopSignal = new CountDownLatch(0);
+
+    /**
+     * Constructs a new UciProtocol.
+     *
+     * @param input  The source of commands.
+     * @param output The destination of responses.
+     */
+    public UciProtocol(Scanner input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Reads and executes commands until {@code quit} is received or the input ends.
+     */
+    public void run() {
+        while (input.hasNextLine()) {
+            if (!execute(input.nextLine())) {
+                return;
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Executes a single command. Unknown commands are ignored, as the protocol requires.
+     *
+     * @param line The command line.
+     * @return {@code false} if the command was {@code quit}, {@code true} otherwise.
+     */
+    public boolean execute(String line) {
+        String[] tokens = line.trim().split("\\s+");
+
+        switch (tokens[0]) {
+            case "uci":
+                output.println("id name JavaChess");
+                output.println("id author leonZtiger");
+                output.println("option name Hash type spin default " + DEFAULT_HASH + " min 1 max " + MAX_HASH);
+                output.println("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                output.println("uciok");
+                break;
+            case "isready":
+                output.println("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                table.clear();
+                game = new ChessGame();
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                stopSearch();
+                return false;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Handles {@code setoption name <name> value <value>}.
+     *
+     * @param tokens The command tokens.
+     */
+    private void setOption(String[] tokens) {
+        if (tokens.length < 5 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            return;
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(tokens[4]);
+        } catch (NumberFormatException e) {
+            output.println("info string Invalid value " + tokens[4]);
+            return;
+        }
+
+        if (tokens[2].equalsIgnoreCase("Hash")) {
+            table.resize(Math.max(1, Math.min(MAX_HASH, value)));
+        } else if (tokens[2].equalsIgnoreCase("Threads")) {
+            search.setThreads(Math.max(1, Math.min(MAX_THREADS, value)));
+        }
+    }
+
+    /**
+     * Handles {@code position startpos [moves <move>...]}.
+     * Moves are replayed with {@link ChessGame#movePiece}, so only moves allowed by the game's rules are accepted.
+     * An unsupported position or a rejected move leaves no position set, until the next valid {@code position}.
+     *
+     * @param tokens The command tokens.
+     */
+    private void setPosition(String[] tokens) {
+        if (tokens.length < 2 || !tokens[1].equals("startpos")) {
+            output.println("info string Only 'position startpos' is supported");
+            game = null; // Don't search a position the GUI didn't ask for
+            return;
+        }
+
+        game = new ChessGame();
+        for (int i = 3; i < tokens.length && tokens[2].equals("moves"); i++) {
+            Move move = Move.fromUci(tokens[i]);
+
+            // Stop replaying at the first move the game rejects
+            if (move == null || !game.movePiece(move.fromX, move.fromY, move.toX, move.toY)) {
+                output.println("info string Illegal move " + tokens[i]);
+                game = null; // The replayed position is not the GUI's position
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handles {@code go} with {@code depth}, {@code movetime}, {@code wtime}/{@code btime}, or {@code infinite}.
+     * Without any limit the search runs until {@code stop}.
+     * Without a valid position the answer is {@code bestmove 0000}.
+     *
+     * @param tokens The command tokens.
+     */
+    private void go(String[] tokens) {
+        if (game == null) {
+            output.println("bestmove 0000"); // No valid position to search
+            return;
+        }
+
+        int depth = MAX_DEPTH;
+        long moveTime = -1;
+        long time = -1;
+        long increment = 0;
+        int movesToGo = 30;
+        boolean infinite = true;
+        boolean whiteTurn = game.isWhiteTurn();
+
+        for (int i = 1; i < tokens.length; i++) {
+            String value = i + 1 < tokens.length ? tokens[i + 1] : "0";
+            try {
+                switch (tokens[i]) {
+                    case "depth":
+                        depth = Math.max(1, Integer.parseInt(value));
+                        infinite = false;
+                        break;
+                    case "movetime":
+                        moveTime = Long.parseLong(value);
+                        infinite = false;
+                        break;
+                    case "wtime":
+                    case "btime":
+                        if (tokens[i].equals(whiteTurn ? "wtime" : "btime")) {
+                            time = Long.parseLong(value);
+                            infinite = false;
+                        }
+                        break;
+                    case "winc":
+                    case "binc":
+                        if (tokens[i].equals(whiteTurn ? "winc" : "binc")) {
+                            increment = Long.parseLong(value);
+                        }
+                        break;
+                    case "movestogo":
+                        movesToGo = Math.max(1, Integer.parseInt(value));
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                output.println("info string Invalid value " + value);
+            }
+        }
+
+        // Spend an even share of the remaining clock, keeping a safety margin
+        if (moveTime < 0 && time >= 0) {
+            moveTime = Math.max(1, Math.min(time / movesToGo + increment / 2, time - 50));
+        }
+
+        startSearch(depth, moveTime, infinite);
+    }
+
+    /**
+     * Starts the search on a background thread.
+     *
+     * @param depth    The maximum depth to search.
+     * @param moveTime The time limit in milliseconds, or a negative value for no limit.
+     * @param infinite {@code true} to hold back the best move until {@code stop} is received.
+     */
+    private void startSearch(int depth, long moveTime, boolean infinite) {
+        ChessBoard board = game.getBoard();
+        boolean whiteTurn = game.isWhiteTurn();
+        CountDownLatch signal = new CountDownLatch(infinite ? 1 : 0);
+
+        search.clearStop();
+        stopSignal = signal;
+        ScheduledFuture<?> deadline = moveTime >= 0 ? timer.schedule(search::stop, moveTime, TimeUnit.MILLISECONDS) : null;
+
+        searchThread = new Thread(() -> {
+            Search.Result result = search.search(board, whiteTurn, depth, this::printInfo);
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+
+            // An infinite search must not report its move before being told to stop
+            try {
+                signal.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            output.println("bestmove " + (result.bestMove != null ? result.bestMove.toUci() : "0000"));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has reported its best move.
+     */
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        search.stop();
+        stopSignal.countDown();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    /**
+     * Reports a completed search iteration.
+     *
+     * @param result The result of the iteration.
+     */
+    private void printInfo(Search.Result result) {
+        String score;
+        if (Math.abs(result.score) >= Search.MATE - Search.MAX_PLY) {
+            // Convert the distance to the king capture from plies into moves
+            int moves = (Search.MATE - Math.abs(result.score) + 1) / 2;
+            score = "mate " + (result.score > 0 ? moves : -moves);
+        } else {
+            score = "cp " + result.score;
+        }
+
+        long nps = result.millis > 0 ? result.nodes * 1000 / result.millis : result.nodes;
+        output.println("info depth " + result.depth + " score " + score + " nodes " + result.nodes + " nps " + nps
+                + " time " + result.millis + " pv " + result.bestMove.toUci());
+    }
+}
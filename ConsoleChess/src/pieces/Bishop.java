@@ -62,4 +62,14 @@ public class Bishop extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♗' : '♝';
     }
+
+    /**
+     * Creates a copy of the bishop at its current position.
+     *
+     * @return A new {@link Bishop} with the same color and coordinates.
+     */
+    @Override
+    public ChessPiece copy() {
+        return new Bishop(x, y, isWhite);
+    }
 }
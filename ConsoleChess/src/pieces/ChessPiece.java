@@ -37,6 +37,40 @@ public abstract class ChessPiece {
         return isWhite;
     }
 
+    /**
+     * Returns the current x-coordinate (column) of the piece.
+     *
+     * @return The x-coordinate of the piece.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the current y-coordinate (row) of the piece.
+     *
+     * @return The y-coordinate of the piece.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Checks whether the piece could move to the specified position without changing any state.
+     * Targets outside the board are rejected, so callers may probe arbitrary squares.
+     *
+     * @param x     The target x-coordinate (column) for the move.
+     * @param y     The target y-coordinate (row) for the move.
+     * @param board The current state of the chessboard.
+     * @return {@code true} if the move is valid, {@code false} otherwise.
+     */
+    public boolean isValidMove(int x, int y, ChessPiece[][] board) {
+        if (x < 0 || y < 0 || x >= board.length || y >= board[x].length) {
+            return false; // Target is off the board
+        }
+        return canMakeMove(x, y, board);
+    }
+
     /**
      * Attempts to move the piece to a new position on the board.
      * If the move is valid, updates the piece's position and modifies the board state.
@@ -76,4 +110,12 @@ public abstract class ChessPiece {
      * @return A character representing the piece (e.g., 'K' for King, 'Q' for Queen).
      */
     public abstract char getPieceChar();
+
+    /**
+     * Creates an independent copy of the piece, including any movement state.
+     * Used to explore moves on a scratch board without touching the real game.
+     *
+     * @return A new piece of the same type, color and position.
+     */
+    public abstract ChessPiece copy();
 }
@@ -51,4 +51,14 @@ public class King extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♔' : '♚';
     }
+
+    /**
+     * Creates a copy of the king at its current position.
+     *
+     * @return A new {@link King} with the same color and coordinates.
+     */
+    @Override
+    public ChessPiece copy() {
+        return new King(x, y, isWhite);
+    }
 }
@@ -52,4 +52,14 @@ public class Knight extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♘' : '♞';
     }
+
+    /**
+     * Creates a copy of the knight at its current position.
+     *
+     * @return A new {@link Knight} with the same color and coordinates.
+     */
+    @Override
+    public ChessPiece copy() {
+        return new Knight(x, y, isWhite);
+    }
 }
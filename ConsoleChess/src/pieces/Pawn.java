@@ -20,6 +20,34 @@ public class Pawn extends ChessPiece {
         super(x, y, isWhite);
     }
 
+    /**
+     * Checks if the pawn has not moved yet and may still advance two squares.
+     *
+     * @return {@code true} if the pawn has not made its first move, {@code false} otherwise.
+     */
+    public boolean isFirstMove() {
+        return isFirstMove;
+    }
+
+    /**
+     * Moves the pawn and marks its first move as used.
+     * The first-move flag is only cleared once the move has actually been made,
+     * so validating a move never changes the pawn's state.
+     *
+     * @param x     The target x-coordinate (column) for the move.
+     * @param y     The target y-coordinate (row) for the move.
+     * @param board The current state of the chessboard.
+     * @return {@code true} if the move is successful, {@code false} otherwise.
+     */
+    @Override
+    public boolean makeMove(int x, int y, ChessPiece[][] board) {
+        if (super.makeMove(x, y, board)) {
+            isFirstMove = false;
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Checks if the pawn can make a valid move to the specified position.
      * Pawns can move forward one square (or two on their first move) and capture diagonally.
@@ -38,13 +66,11 @@ public class Pawn extends ChessPiece {
         if (this.x == x) {
             // Single-step forward move if the destination square is empty
             if (this.y + direction == y && board[x][y] == null) {
-                isFirstMove = false;
                 return true;
             }
 
             // Two-step forward move on the first move if both squares are empty
             if (isFirstMove && this.y + 2 * direction == y && board[x][y] == null && board[x][this.y + direction] == null) {
-                isFirstMove = false;
                 return true;
             }
         }
@@ -68,4 +94,16 @@ public class Pawn extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♙' : '♟';
     }
+
+    /**
+     * Creates a copy of the pawn, preserving whether it has moved yet.
+     *
+     * @return A new {@link Pawn} with the same color, coordinates and first-move state.
+     */
+    @Override
+    public ChessPiece copy() {
+        Pawn pawn = new Pawn(x, y, isWhite);
+        pawn.isFirstMove = isFirstMove;
+        return pawn;
+    }
 }
@@ -46,4 +46,14 @@ public class Queen extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♕' : '♛';
     }
+
+    /**
+     * Creates a copy of the queen at its current position.
+     *
+     * @return A new {@link Queen} with the same color and coordinates.
+     */
+    @Override
+    public ChessPiece copy() {
+        return new Queen(x, y, isWhite);
+    }
 }
@@ -62,4 +62,14 @@ public class Rook extends ChessPiece {
     public char getPieceChar() {
         return isWhite ? '♖' : '♜';
     }
+
+    /**
+     * Creates a copy of the rook at its current position.
+     *
+     * @return A new {@link Rook} with the same color and coordinates.
+     */
+    @Override
+    public ChessPiece copy() {
+        return new Rook(x, y, isWhite);
+    }
 }